@@ -0,0 +1,232 @@
+package org.sj.iot.codec;
+
+import org.sj.iot.codec.MessageSchema.Field;
+import org.sj.iot.codec.MessageSchema.Type;
+
+/**
+ * 消息解码器(flyweight), 按结构描述解析缓冲区中字段位置, 读取字段时不复制缓冲区, 非线程安全
+ * <p>
+ * wrap要求传入完整的一条消息, 串口读取的数据可能拆分或合并消息, 接收串口数据时应使用{@link MessageFramer}分帧
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class MessageDecoder {
+    static final int INVALID = -1; // 与消息结构不匹配
+    static final int INCOMPLETE = -2; // 数据不完整
+
+    private final MessageSchema schema; // 消息结构描述
+    private final int[] offsets; // 字段起始位置
+    private final int[] lengths; // 字段长度
+    private byte[] buffer; // 读取缓冲区
+
+    MessageDecoder(MessageSchema schema) {
+        this.schema = schema;
+        this.offsets = new int[schema.size()];
+        this.lengths = new int[schema.size()];
+    }
+
+    /**
+     * 解析完整数组
+     *
+     * @return 数据与消息结构匹配则返回true
+     */
+    public boolean wrap(byte[] buffer) {
+        return wrap(buffer, 0, buffer.length);
+    }
+
+    /**
+     * 解析缓冲区中offset开始length长度的消息
+     *
+     * @return 数据与消息结构匹配则返回true
+     */
+    public boolean wrap(byte[] buffer, int offset, int length) {
+        return parse(buffer, offset, length) == length;
+    }
+
+    /**
+     * 解析缓冲区开头的一条消息, 供分帧使用
+     *
+     * @return 消息长度, 数据不完整返回INCOMPLETE, 与消息结构不匹配返回INVALID
+     */
+    int parse(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        int position = offset;
+        int end = offset + length;
+        int delimiter = schema.delimiter();
+        for (int i = 0; i < offsets.length; i++) {
+            Field field = schema.field(i);
+            boolean delimited = schema.hasDelimiter(i);
+            int len;
+            if (field.length != 0) {
+                len = field.length;
+                if (field.type == Type.LITERAL) {
+                    for (int j = 0; j < len && position + j < end; j++) {
+                        if (buffer[position + j] != field.literal[j]) {
+                            return INVALID;
+                        }
+                    }
+                }
+                if (position + len > end) {
+                    return INCOMPLETE;
+                }
+            } else {
+                int stop = delimited ? indexOf(buffer, position, end, (byte) delimiter) : end;
+                if (stop < 0) {
+                    if (end - position > field.maxLength || field.type == Type.DECIMAL && !isDecimal(buffer, position, end, false)) {
+                        return INVALID;
+                    }
+                    return INCOMPLETE;
+                }
+                len = stop - position;
+                if (len > field.maxLength || field.type == Type.DECIMAL && !isDecimal(buffer, position, stop, true)) {
+                    return INVALID;
+                }
+            }
+            offsets[i] = position;
+            lengths[i] = len;
+            position += len;
+            if (delimited) {
+                if (position >= end) {
+                    return INCOMPLETE;
+                }
+                if (buffer[position] != (byte) delimiter) {
+                    return INVALID;
+                }
+                position++;
+            }
+        }
+        return position - offset;
+    }
+
+    /**
+     * 字段在缓冲区中的起始位置
+     */
+    public int offset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * 字段长度
+     */
+    public int length(int index) {
+        return lengths[index];
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    MessageSchema schema() {
+        return schema;
+    }
+
+    /**
+     * 字段是否与文本相等
+     */
+    public boolean equals(int index, CharSequence value) {
+        int len = lengths[index];
+        if (value.length() != len) {
+            return false;
+        }
+        int offset = offsets[index];
+        for (int i = 0; i < len; i++) {
+            if ((buffer[offset + i] & 0xFF) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将文本字段追加到调用方提供的StringBuilder
+     */
+    public StringBuilder getText(int index, StringBuilder dst) {
+        int offset = offsets[index];
+        for (int i = offset, end = offset + lengths[index]; i < end; i++) {
+            dst.append((char) (buffer[i] & 0xFF));
+        }
+        return dst;
+    }
+
+    /**
+     * 读取十六进制文本字段
+     */
+    public long getHex(int index) {
+        long value = 0;
+        int offset = offsets[index];
+        for (int i = offset, end = offset + lengths[index]; i < end; i++) {
+            int digit = Character.digit(buffer[i], 16);
+            if (digit < 0) {
+                throw new NumberFormatException(String.format("字段[%s]不是十六进制数字", schema.field(index).name));
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    /**
+     * 读取十进制数字文本字段
+     */
+    public long getDecimal(int index) {
+        int offset = offsets[index];
+        int end = offset + lengths[index];
+        boolean negative = offset < end && buffer[offset] == '-';
+        int i = negative ? offset + 1 : offset;
+        if (i == end) {
+            throw new NumberFormatException(String.format("字段[%s]不是十进制数字", schema.field(index).name));
+        }
+        // 使用负数累加, 避免Long.MIN_VALUE溢出
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(String.format("字段[%s]不是十进制数字", schema.field(index).name));
+            }
+            if (value < (limit + digit) / 10) {
+                throw new NumberFormatException(String.format("字段[%s]数值溢出", schema.field(index).name));
+            }
+            value = value * 10 - digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * 读取大端二进制整数字段, 无符号扩展
+     */
+    public long getBinary(int index) {
+        long value = 0;
+        int offset = offsets[index];
+        for (int i = offset, end = offset + lengths[index]; i < end; i++) {
+            value = (value << 8) | (buffer[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * 是否为十进制数字文本(可选负号), complete为false时仅校验已接收部分
+     */
+    private static boolean isDecimal(byte[] buffer, int from, int to, boolean complete) {
+        int i = from < to && buffer[from] == '-' ? from + 1 : from;
+        if (complete && i == to) {
+            return false;
+        }
+        for (; i < to; i++) {
+            if (buffer[i] < '0' || buffer[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] buffer, int from, int end, byte b) {
+        for (int i = from; i < end; i++) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,218 @@
+package org.sj.iot.codec;
+
+import org.sj.iot.codec.MessageSchema.Field;
+import org.sj.iot.codec.MessageSchema.Type;
+import org.sj.iot.serial.ISerialPort;
+
+/**
+ * 消息编码器(flyweight), 按结构描述顺序将字段直接写入缓冲区, 编码过程不分配对象, 非线程安全
+ * <pre>
+ * encoder.reset().putHex(0xFF8800).sent(serialPort);
+ * </pre>
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class MessageEncoder {
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    private final MessageSchema schema; // 消息结构描述
+    private byte[] buffer; // 写入缓冲区
+    private int offset; // 消息起始位置
+    private int position; // 当前写入位置
+    private int index; // 下一个写入字段下标
+
+    MessageEncoder(MessageSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * 绑定调用方提供的缓冲区, 从offset开始写入消息
+     */
+    public MessageEncoder wrap(byte[] buffer, int offset) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("缓冲区不能为空!");
+        }
+        if (offset < 0 || offset > buffer.length) {
+            throw new IllegalArgumentException(String.format("错误的缓冲区偏移: %s", offset));
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        return reset();
+    }
+
+    /**
+     * 复用当前缓冲区重新编码
+     */
+    public MessageEncoder reset() {
+        this.position = offset;
+        this.index = 0;
+        return this;
+    }
+
+    /**
+     * 写入文本字段, 仅支持ASCII字符, 固定长度字段长度必须一致
+     */
+    public MessageEncoder putText(CharSequence value) {
+        Field field = begin(Type.TEXT);
+        int len = value.length();
+        if (field.length != 0 ? len != field.length : len > field.maxLength) {
+            throw new IllegalArgumentException(String.format("字段[%s]长度错误: %s", field.name, len));
+        }
+        ensure(len);
+        // 可变长度字段以分隔符结束, 值中不能包含分隔符
+        int delimiter = field.length == 0 && schema.hasDelimiter(index) ? schema.delimiter() : MessageSchema.NO_DELIMITER;
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException(String.format("字段[%s]包含非ASCII字符: %s", field.name, c));
+            }
+            if (c == delimiter) {
+                throw new IllegalArgumentException(String.format("字段[%s]包含分隔符: %s", field.name, value));
+            }
+            buffer[position + i] = (byte) c;
+        }
+        position += len;
+        return end();
+    }
+
+    /**
+     * 以小写十六进制写入固定长度文本字段, 不足位补0, 负数按无符号处理
+     */
+    public MessageEncoder putHex(long value) {
+        Field field = begin(Type.TEXT);
+        if (field.length == 0) {
+            throw new IllegalStateException(String.format("字段[%s]不是固定长度字段", field.name));
+        }
+        if (field.length < 16 && value >>> (field.length * 4) != 0) {
+            throw new IllegalArgumentException(String.format("字段[%s]长度不足以写入: %s", field.name, Long.toHexString(value)));
+        }
+        ensure(field.length);
+        for (int i = position + field.length - 1; i >= position; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        position += field.length;
+        return end();
+    }
+
+    /**
+     * 写入十进制数字文本字段
+     */
+    public MessageEncoder putDecimal(long value) {
+        begin(Type.DECIMAL);
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        int len = value < 0 ? digits + 1 : digits;
+        ensure(len);
+        if (value < 0) {
+            buffer[position] = '-';
+        }
+        // 使用负数计算, 避免Long.MIN_VALUE取反溢出
+        long v = value < 0 ? value : -value;
+        for (int i = position + len - 1; i >= position + len - digits; i--) {
+            buffer[i] = (byte) ('0' - v % 10);
+            v /= 10;
+        }
+        position += len;
+        return end();
+    }
+
+    /**
+     * 写入大端二进制整数字段, 负数按无符号处理
+     */
+    public MessageEncoder putBinary(long value) {
+        Field field = begin(Type.BINARY);
+        if (field.length < 8 && value >>> (field.length * 8) != 0) {
+            throw new IllegalArgumentException(String.format("字段[%s]长度不足以写入: %s", field.name, Long.toHexString(value)));
+        }
+        ensure(field.length);
+        for (int i = position + field.length - 1; i >= position; i--) {
+            buffer[i] = (byte) value;
+            value >>>= 8;
+        }
+        position += field.length;
+        return end();
+    }
+
+    /**
+     * 写入剩余常量字段, 返回消息长度
+     */
+    public int finish() {
+        skipLiteral();
+        if (index != schema.size()) {
+            throw new IllegalStateException(String.format("消息字段未写完: %s/%s", index, schema.size()));
+        }
+        return position - offset;
+    }
+
+    /**
+     * 完成编码并通过串口设备发送
+     */
+    public void sent(ISerialPort serialPort) {
+        int length = finish();
+        serialPort.sent(buffer, offset, length);
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * 当前已写入长度
+     */
+    public int length() {
+        return position - offset;
+    }
+
+    private Field begin(Type type) {
+        skipLiteral();
+        if (index >= schema.size()) {
+            throw new IllegalStateException("消息字段已写完!");
+        }
+        Field field = schema.field(index);
+        if (field.type != type) {
+            throw new IllegalStateException(String.format("字段[%s]类型为%s, 不能写入%s", field.name, field.type, type));
+        }
+        return field;
+    }
+
+    private MessageEncoder end() {
+        delimit();
+        index++;
+        return this;
+    }
+
+    private void skipLiteral() {
+        while (index < schema.size()) {
+            Field field = schema.field(index);
+            if (field.type != Type.LITERAL) {
+                return;
+            }
+            ensure(field.length);
+            System.arraycopy(field.literal, 0, buffer, position, field.length);
+            position += field.length;
+            end();
+        }
+    }
+
+    private void delimit() {
+        if (schema.hasDelimiter(index)) {
+            ensure(1);
+            buffer[position++] = (byte) schema.delimiter();
+        }
+    }
+
+    private void ensure(int len) {
+        if (position + len > buffer.length) {
+            throw new IndexOutOfBoundsException(String.format("缓冲区空间不足: %s", buffer.length - position));
+        }
+    }
+}
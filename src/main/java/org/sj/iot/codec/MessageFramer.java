@@ -0,0 +1,115 @@
+package org.sj.iot.codec;
+
+import org.sj.iot.codec.MessageSchema.Field;
+import org.sj.iot.serial.ISerialPortListener;
+
+import java.util.function.Consumer;
+
+/**
+ * 消息分帧器, 作为串口设备监听器累积任意拆分/合并的接收数据, 每解析出一条完整消息回调一次解码器.
+ * 使用内部可复用缓冲区, 分帧和解码过程不分配对象; 不匹配的数据从下一字节开始重新查找消息, 回调抛出的异常被计数后跳过该消息
+ * <pre>
+ * serialPort.addListener(id, new MessageFramer(schema.decoder(), decoder -> {
+ *     long status = decoder.getDecimal(statusIndex);
+ * }));
+ * </pre>
+ * 回调中的解码器引用分帧器内部缓冲区, 仅在回调期间有效
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class MessageFramer implements ISerialPortListener {
+    private final MessageDecoder decoder; // 消息解码器
+    private final Consumer<MessageDecoder> handler; // 完整消息回调
+    private final byte[] buffer; // 累积缓冲区
+    private int start; // 未处理数据起始位置
+    private int end; // 未处理数据结束位置
+    private long dropped; // 丢弃字节数
+    private long failed; // 回调异常的消息数
+
+    /**
+     * @param decoder 消息解码器, 消息结构的最后一个字段必须为固定长度或以分隔符结束
+     * @param handler 完整消息回调
+     */
+    public MessageFramer(MessageDecoder decoder, Consumer<MessageDecoder> handler) {
+        if (decoder == null || handler == null) {
+            throw new IllegalArgumentException("消息解码器和回调不能为空!");
+        }
+        MessageSchema schema = decoder.schema();
+        int last = schema.size() - 1;
+        if (last < 0) {
+            throw new IllegalArgumentException("消息结构不能为空!");
+        }
+        Field field = schema.field(last);
+        if (field.length == 0 && !schema.hasDelimiter(last)) {
+            throw new IllegalArgumentException("无法确定消息结束位置, 最后一个字段必须为固定长度或以分隔符结束");
+        }
+        this.decoder = decoder;
+        this.handler = handler;
+        this.buffer = new byte[schema.maxLength() * 2];
+    }
+
+    @Override
+    public void accept(byte[] data) {
+        feed(data, 0, data.length);
+    }
+
+    /**
+     * 输入串口接收数据
+     */
+    public synchronized void feed(byte[] data, int offset, int length) {
+        while (length > 0) {
+            if (end == buffer.length) {
+                // 未完成消息不超过消息最大长度, 压缩后必有剩余空间
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            }
+            int len = Math.min(length, buffer.length - end);
+            System.arraycopy(data, offset, buffer, end, len);
+            end += len;
+            offset += len;
+            length -= len;
+            frame();
+        }
+    }
+
+    /**
+     * 丢弃的不匹配字节数
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * 回调抛出异常的消息数, 异常消息被跳过
+     */
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    private void frame() {
+        while (start < end) {
+            int len = decoder.parse(buffer, start, end - start);
+            if (len == MessageDecoder.INCOMPLETE) {
+                break;
+            }
+            if (len == MessageDecoder.INVALID) {
+                start++;
+                dropped++;
+                continue;
+            }
+            // 先移过本条消息, 回调异常不会阻塞后续消息
+            start += len;
+            try {
+                handler.accept(decoder);
+            } catch (RuntimeException e) {
+                failed++;
+            }
+        }
+        if (start == end) {
+            start = end = 0;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.sj.iot.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 消息结构描述, 按顺序定义字段及字段分隔符, 用于生成可复用的消息编码器/解码器
+ * <pre>
+ * MessageSchema color = new MessageSchema('\n').literal("color").fixed("rgb", 6);
+ * </pre>
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class MessageSchema {
+    /**
+     * 无字段分隔符
+     */
+    public static final int NO_DELIMITER = -1;
+
+    private static final int DECIMAL_MAX_LENGTH = 20; // long十进制最大长度(含符号)
+
+    /**
+     * 字段类型
+     */
+    enum Type {
+        LITERAL, // 常量
+        TEXT, // 文本, 固定或可变长度
+        DECIMAL, // 十进制数字文本, 可变长度
+        BINARY // 大端二进制整数, 固定长度
+    }
+
+    /**
+     * 字段描述
+     */
+    static final class Field {
+        final String name; // 字段名称
+        final Type type; // 字段类型
+        final int length; // 固定长度, 0为可变长度
+        final int maxLength; // 最大长度
+        final byte[] literal; // 常量值
+
+        Field(String name, Type type, int length, int maxLength, byte[] literal) {
+            this.name = name;
+            this.type = type;
+            this.length = length;
+            this.maxLength = maxLength;
+            this.literal = literal;
+        }
+    }
+
+    private final List<Field> fields = new ArrayList<>();
+    private final int delimiter; // 字段分隔符
+    private boolean terminated; // 最后一个字段后是否追加分隔符
+    private volatile boolean frozen; // 已创建编码器/解码器, 结构不可再修改
+
+    /**
+     * @param delimiter 字段分隔符, NO_DELIMITER表示无分隔符
+     */
+    public MessageSchema(int delimiter) {
+        if (delimiter != NO_DELIMITER && (delimiter < 0 || delimiter > 0xFF)) {
+            throw new IllegalArgumentException(String.format("错误的字段分隔符: %s", delimiter));
+        }
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 添加常量字段, 编码时自动写入, 解码时校验
+     */
+    public MessageSchema literal(String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("常量字段值不能为空!");
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        return add(new Field(null, Type.LITERAL, bytes.length, bytes.length, bytes));
+    }
+
+    /**
+     * 添加可变长度文本字段, 以分隔符结束
+     */
+    public MessageSchema text(String name, int maxLength) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException(String.format("错误的字段[%s]最大长度: %s", name, maxLength));
+        }
+        return add(new Field(checkName(name), Type.TEXT, 0, maxLength, null));
+    }
+
+    /**
+     * 添加固定长度文本字段
+     */
+    public MessageSchema fixed(String name, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException(String.format("错误的字段[%s]长度: %s", name, length));
+        }
+        return add(new Field(checkName(name), Type.TEXT, length, length, null));
+    }
+
+    /**
+     * 添加十进制数字文本字段, 以分隔符结束
+     */
+    public MessageSchema decimal(String name) {
+        return add(new Field(checkName(name), Type.DECIMAL, 0, DECIMAL_MAX_LENGTH, null));
+    }
+
+    /**
+     * 添加大端二进制整数字段
+     *
+     * @param length 字节数, 1~8
+     */
+    public MessageSchema binary(String name, int length) {
+        if (length <= 0 || length > 8) {
+            throw new IllegalArgumentException(String.format("错误的字段[%s]长度: %s", name, length));
+        }
+        return add(new Field(checkName(name), Type.BINARY, length, length, null));
+    }
+
+    /**
+     * 最后一个字段后追加分隔符
+     */
+    public MessageSchema terminated() {
+        if (delimiter == NO_DELIMITER) {
+            throw new IllegalStateException("未设置字段分隔符!");
+        }
+        checkFrozen();
+        this.terminated = true;
+        return this;
+    }
+
+    /**
+     * 获取字段下标, 编码/解码时使用下标访问字段
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (name.equals(fields.get(i).name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(String.format("未找到字段[%s]", name));
+    }
+
+    /**
+     * 字段数量
+     */
+    public int size() {
+        return fields.size();
+    }
+
+    /**
+     * 消息最大长度, 单位: 字节
+     */
+    public int maxLength() {
+        int length = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            length += fields.get(i).maxLength;
+            if (hasDelimiter(i)) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 创建编码器, 使用内部缓冲区; 创建后消息结构不可再修改
+     */
+    public MessageEncoder encoder() {
+        frozen = true;
+        return new MessageEncoder(this).wrap(new byte[maxLength()], 0);
+    }
+
+    /**
+     * 创建解码器; 创建后消息结构不可再修改
+     */
+    public MessageDecoder decoder() {
+        frozen = true;
+        return new MessageDecoder(this);
+    }
+
+    Field field(int index) {
+        return fields.get(index);
+    }
+
+    int delimiter() {
+        return delimiter;
+    }
+
+    /**
+     * 字段后是否有分隔符
+     */
+    boolean hasDelimiter(int index) {
+        return delimiter != NO_DELIMITER && (index < fields.size() - 1 || terminated);
+    }
+
+    private void checkFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("已创建编码器/解码器, 消息结构不可修改!");
+        }
+    }
+
+    private MessageSchema add(Field field) {
+        checkFrozen();
+        if (!fields.isEmpty()) {
+            Field last = fields.get(fields.size() - 1);
+            if (last.length == 0 && delimiter == NO_DELIMITER) {
+                throw new IllegalStateException(String.format("无分隔符时可变长度字段[%s]必须为最后一个字段", last.name));
+            }
+        }
+        fields.add(field);
+        return this;
+    }
+
+    private String checkName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("字段名称不能为空!");
+        }
+        for (Field field : fields) {
+            if (name.equals(field.name)) {
+                throw new IllegalArgumentException(String.format("字段[%s]已存在", name));
+            }
+        }
+        return name;
+    }
+}
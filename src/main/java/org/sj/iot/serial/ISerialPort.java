@@ -11,6 +11,27 @@ import java.util.Map;
  * @date 2017-12-16
  */
 public interface ISerialPort extends Closeable {
+    /**
+     * 流控制: 无
+     */
+    int FLOWCONTROL_NONE = 0;
+    /**
+     * 流控制: RTS/CTS 输入
+     */
+    int FLOWCONTROL_RTSCTS_IN = 1;
+    /**
+     * 流控制: RTS/CTS 输出
+     */
+    int FLOWCONTROL_RTSCTS_OUT = 2;
+    /**
+     * 流控制: XON/XOFF 输入
+     */
+    int FLOWCONTROL_XONXOFF_IN = 4;
+    /**
+     * 流控制: XON/XOFF 输出
+     */
+    int FLOWCONTROL_XONXOFF_OUT = 8;
+
     /**
      * 串口设备名称
      */
@@ -28,6 +49,23 @@ public interface ISerialPort extends Closeable {
      */
     void open(int b, int d, int s, int p, int timeout);
 
+    /**
+     * 打开串口设备通道, 并自定义: 比特率, 数据位, 停止位, 奇偶检验位, 流控制, 超时
+     *
+     * @param f 流控制, FLOWCONTROL_* 按位组合
+     */
+    void open(int b, int d, int s, int p, int f, int timeout);
+
+    /**
+     * 设置发送节流, 防止串口设备接收缓冲区溢出. 发送数据按接收缓冲区大小分块, 累计发送量超出
+     * 串口设备已处理量加接收缓冲区大小时等待, 串口设备处理量按drainRate(不超过线路速率)估算.
+     * 持续发送速率约为min(drainRate, 线路速率), drainRate不小于线路速率时仅分块不降速
+     *
+     * @param bufferSize 串口设备接收缓冲区大小, 单位: 字节, 小于等于0则关闭节流
+     * @param drainRate  串口设备处理接收数据的速率, 单位: 字节/秒, 小于等于0则关闭节流
+     */
+    void setPacing(int bufferSize, int drainRate);
+
     /**
      * 串口设备通道是否已被打开
      */
@@ -43,6 +81,11 @@ public interface ISerialPort extends Closeable {
      */
     void sent(byte[] data);
 
+    /**
+     * 发送数据中offset开始length长度的部分, 用于复用缓冲区
+     */
+    void sent(byte[] data, int offset, int length);
+
     /**
      * 绑定监听器
      */
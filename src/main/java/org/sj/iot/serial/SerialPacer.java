@@ -0,0 +1,96 @@
+package org.sj.iot.serial;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 串口发送节流(令牌桶), 令牌表示串口设备接收缓冲区剩余空间, 桶容量为接收缓冲区大小,
+ * 按串口设备处理速率(不超过线路速率)补充令牌, 保证发送速率不超过串口设备清空缓冲区的速率
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class SerialPacer {
+    private final int capacity; // 桶容量, 单位: 字节
+    private final double nanosPerByte; // 补充每个令牌耗时, 单位: 纳秒
+    private double tokens; // 当前可用令牌
+    private long lastTime; // 上次补充令牌时间
+
+    /**
+     * @param b          比特率
+     * @param d          数据位
+     * @param s          停止位, 1: 1位, 2: 2位, 3: 1.5位
+     * @param p          奇偶检验位, 0: 无
+     * @param bufferSize 串口设备接收缓冲区大小, 单位: 字节
+     * @param drainRate  串口设备处理接收数据的速率, 单位: 字节/秒, 不小于线路速率时节流仅按线路速率分块
+     */
+    public SerialPacer(int b, int d, int s, int p, int bufferSize, int drainRate) {
+        if (b <= 0) {
+            throw new IllegalArgumentException(String.format("错误的比特率: %s", b));
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(String.format("错误的串口设备接收缓冲区大小: %s", bufferSize));
+        }
+        if (drainRate <= 0) {
+            throw new IllegalArgumentException(String.format("错误的串口设备处理速率: %s", drainRate));
+        }
+        double stopBits = s == 3 ? 1.5 : s;
+        double bitsPerByte = 1 + d + stopBits + (p == 0 ? 0 : 1); // 起始位 + 数据位 + 停止位 + 检验位
+        this.capacity = bufferSize;
+        double lineRate = b / bitsPerByte; // 线路速率, 单位: 字节/秒
+        this.nanosPerByte = TimeUnit.SECONDS.toNanos(1) / Math.min(lineRate, drainRate);
+        this.tokens = bufferSize; // 初始时串口设备接收缓冲区为空
+        this.lastTime = System.nanoTime();
+    }
+
+    /**
+     * 创建发送节流, 如果接收缓冲区大小或处理速率小于等于0则返回null
+     */
+    public static SerialPacer create(int b, int d, int s, int p, int bufferSize, int drainRate) {
+        if (bufferSize <= 0 || drainRate <= 0) {
+            return null;
+        }
+        return new SerialPacer(b, d, s, p, bufferSize, drainRate);
+    }
+
+    /**
+     * 桶容量, 单次可获取的最大字节数
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取发送许可, 阻塞直至令牌足够, 等待期间不响应中断(保证已开始的数据发送完整), 返回前恢复中断标志
+     *
+     * @param n 期望发送字节数
+     * @return 本次允许发送的字节数, 不超过桶容量
+     */
+    public synchronized int acquire(int n) {
+        if (n <= 0) {
+            return 0;
+        }
+        int len = Math.min(n, capacity);
+        boolean interrupted = false;
+        refill();
+        while (tokens < len) {
+            try {
+                TimeUnit.NANOSECONDS.sleep((long) Math.ceil((len - tokens) * nanosPerByte));
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            refill();
+        }
+        tokens -= len;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return len;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastTime) / nanosPerByte);
+        lastTime = now;
+    }
+}
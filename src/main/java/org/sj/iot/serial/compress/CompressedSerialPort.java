@@ -0,0 +1,310 @@
+package org.sj.iot.serial.compress;
+
+import org.sj.iot.serial.ISerialPort;
+import org.sj.iot.serial.ISerialPortListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 链路压缩串口设备, 包装其他串口设备, 与串口设备协商成功后发送数据按LZSS帧编码, 接收数据按帧解码后回调监听器,
+ * 未协商或协商失败时原样透传
+ * <p>
+ * 协商: 主机发送 0xA5 'L' 'Z' 窗口位数 最大帧长度(2字节, 大端), 串口设备应答 0x5A 'L' 'Z' 接受的窗口位数
+ * 接受的最大帧长度(2字节, 大端), 接受值不得大于请求值. 应答首字节与请求不同, 回环适配器或半双工收发器回显的请求不会被当作应答
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class CompressedSerialPort implements ISerialPort {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompressedSerialPort.class);
+
+    private static final int HELLO = 0xA5; // 协商请求首字节
+    private static final int ACK = 0x5A; // 协商应答首字节
+    private static final int HELLO_LENGTH = 6;
+
+    private final ISerialPort serialPort; // 被包装的串口设备
+    private final int windowBits; // 请求窗口位数
+    private final int maxFrameLength; // 请求最大帧长度
+    private final Object lock = new Object(); // 接收锁, 串行协商切换与解码
+    private final String id = UUID.randomUUID().toString(); // 在被包装串口设备上的监听器标识
+    private final Map<String, ISerialPortListener> cacheListener = new ConcurrentHashMap<>();
+    private LzssEncoder encoder; // 协商后的编码器
+    private LzssDecoder decoder; // 协商后的解码器
+    private int frameLength; // 协商后的最大帧长度
+    private byte[] buffer = new byte[0]; // 发送编码缓冲区
+    private volatile boolean enabled; // 是否已协商启用压缩
+    private ISerialPortListener negotiation; // 协商应答监听, lock保护
+    private long rawBytes; // 发送原始字节数
+    private long wireBytes; // 发送线路字节数
+
+    /**
+     * @param windowBits     请求窗口位数, 8~12, 串口设备可接受更小值
+     * @param maxFrameLength 请求最大帧原始长度, 串口设备可接受更小值
+     */
+    public CompressedSerialPort(ISerialPort serialPort, int windowBits, int maxFrameLength) {
+        if (serialPort == null) {
+            throw new IllegalArgumentException("串口设备不能为空!");
+        }
+        if (windowBits < LzssEncoder.MIN_WINDOW_BITS || windowBits > LzssEncoder.MAX_WINDOW_BITS) {
+            throw new IllegalArgumentException(String.format("错误的窗口位数: %s", windowBits));
+        }
+        if (maxFrameLength <= 0 || maxFrameLength > LzssEncoder.MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException(String.format("错误的最大帧长度: %s", maxFrameLength));
+        }
+        this.serialPort = serialPort;
+        this.windowBits = windowBits;
+        this.maxFrameLength = maxFrameLength;
+        serialPort.addListener(id, this::listener);
+    }
+
+    /**
+     * 与串口设备协商压缩, 同步阻塞, 串口设备需已打开. 协商前丢弃未完成的解码数据;
+     * 协商期间接收的应答前数据(回显的请求除外)原样回调监听器, 同批接收的应答后数据按协商结果解码或透传
+     *
+     * @param timeout 超时时间, 单位: 毫秒
+     * @return 串口设备是否支持压缩
+     */
+    public synchronized boolean negotiate(long timeout) {
+        byte[] hello = {(byte) HELLO, 'L', 'Z', (byte) windowBits, (byte) (maxFrameLength >>> 8), (byte) maxFrameLength};
+        CountDownLatch counter = new CountDownLatch(1);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        int[] ack = {-1}; // 应答位置
+        synchronized (lock) {
+            enabled = false;
+            if (decoder != null) {
+                decoder.reset();
+            }
+            // 在lock内回调
+            negotiation = result -> {
+                received.write(result, 0, result.length);
+                if (ack[0] < 0) {
+                    // 跳过回显的请求等数据, 查找应答
+                    ack[0] = indexOf(received.toByteArray(), ACK);
+                    if (ack[0] >= 0) {
+                        counter.countDown();
+                    }
+                }
+            };
+        }
+        try {
+            serialPort.sent(hello);
+            counter.await(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                negotiation = null;
+                byte[] data = received.toByteArray();
+                pass(data, 0, data.length);
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            negotiation = null;
+            byte[] data = received.toByteArray();
+            int position = ack[0];
+            int acceptWindowBits = 0;
+            int acceptFrameLength = 0;
+            if (position < 0) {
+                LOGGER.debug("串口设备[{}]压缩协商失败: 未应答", getName());
+            } else {
+                acceptWindowBits = data[position + 3];
+                acceptFrameLength = (data[position + 4] & 0xFF) << 8 | (data[position + 5] & 0xFF);
+                if (acceptWindowBits < LzssEncoder.MIN_WINDOW_BITS || acceptWindowBits > windowBits
+                        || acceptFrameLength <= 0 || acceptFrameLength > maxFrameLength) {
+                    LOGGER.debug("串口设备[{}]压缩协商失败: 错误的应答参数 {}, {}", getName(), acceptWindowBits, acceptFrameLength);
+                    acceptFrameLength = 0;
+                }
+            }
+            // 应答前的数据为串口设备切换前发送, 原样透传
+            int before = position < 0 ? data.length : position;
+            int echo = indexOf(data, HELLO);
+            if (echo >= 0 && echo + HELLO_LENGTH <= before) {
+                pass(data, 0, echo);
+                pass(data, echo + HELLO_LENGTH, before);
+            } else {
+                pass(data, 0, before);
+            }
+            if (position < 0) {
+                return false;
+            }
+            int after = position + HELLO_LENGTH;
+            if (acceptFrameLength == 0) {
+                pass(data, after, data.length);
+                return false;
+            }
+            encoder = new LzssEncoder(acceptWindowBits, LzssEncoder.SYNC_HOST);
+            frameLength = acceptFrameLength;
+            decoder = new LzssDecoder(acceptWindowBits, acceptFrameLength, LzssEncoder.SYNC_DEVICE);
+            decoder.feed(data, after, data.length - after, this::dispatch);
+            enabled = true;
+            LOGGER.debug("串口设备[{}]压缩协商成功: 窗口{}, 最大帧长度{}", getName(), 1 << acceptWindowBits, acceptFrameLength);
+            return true;
+        }
+    }
+
+    /**
+     * 是否已启用压缩
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 发送数据压缩比, 线路字节数 / 原始字节数
+     */
+    public synchronized double getRatio() {
+        return rawBytes == 0 ? 1 : (double) wireBytes / rawBytes;
+    }
+
+    private void listener(byte[] result) {
+        // 协商切换与接收数据串行, 保证数据不丢失且有序
+        synchronized (lock) {
+            if (negotiation != null) {
+                negotiation.accept(result);
+            } else if (enabled) {
+                decoder.feed(result, 0, result.length, this::dispatch);
+            } else {
+                dispatch(result);
+            }
+        }
+    }
+
+    /**
+     * 透传协商期间接收的非应答数据
+     */
+    private void pass(byte[] data, int from, int to) {
+        if (from < to) {
+            dispatch(Arrays.copyOfRange(data, from, to));
+        }
+    }
+
+    /**
+     * 查找协商请求/应答位置, 需包含完整参数
+     */
+    private static int indexOf(byte[] data, int head) {
+        for (int i = 0; i + HELLO_LENGTH <= data.length; i++) {
+            if ((data[i] & 0xFF) == head && data[i + 1] == 'L' && data[i + 2] == 'Z') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void dispatch(byte[] result) {
+        cacheListener.values().parallelStream().filter(Objects::nonNull).forEach(listener -> {
+            try {
+                listener.accept(result.clone());
+            } catch (Exception e) {
+                throw new RuntimeException(String.format("处理串口设备[%s]数据失败: %s", getName(), e.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return serialPort.getName();
+    }
+
+    @Override
+    public void open(int timeout) {
+        serialPort.open(timeout);
+    }
+
+    @Override
+    public void open(int b, int d, int s, int p, int timeout) {
+        serialPort.open(b, d, s, p, timeout);
+    }
+
+    @Override
+    public void open(int b, int d, int s, int p, int f, int timeout) {
+        serialPort.open(b, d, s, p, f, timeout);
+    }
+
+    @Override
+    public void setPacing(int bufferSize, int drainRate) {
+        serialPort.setPacing(bufferSize, drainRate);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return serialPort.isOpen();
+    }
+
+    @Override
+    public boolean isClose() {
+        return serialPort.isClose();
+    }
+
+    @Override
+    public void sent(byte[] data) {
+        sent(data, 0, data.length);
+    }
+
+    /**
+     * 发送数据, 已启用压缩时超过协商的最大帧长度的数据将拆分为多帧
+     */
+    @Override
+    public synchronized void sent(byte[] data, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, data.length);
+        if (length == 0) {
+            return;
+        }
+        if (!enabled) {
+            serialPort.sent(data, offset, length);
+            return;
+        }
+        int off = offset;
+        int end = offset + length;
+        do {
+            int len = Math.min(end - off, frameLength);
+            int max = LzssEncoder.maxEncodedLength(len);
+            if (buffer.length < max) {
+                buffer = new byte[max];
+            }
+            int size = encoder.encode(data, off, len, buffer, 0);
+            serialPort.sent(buffer, 0, size);
+            rawBytes += len;
+            wireBytes += size;
+            off += len;
+        } while (off < end);
+    }
+
+    @Override
+    public void addListener(String id, ISerialPortListener listener) {
+        cacheListener.put(id, listener);
+    }
+
+    @Override
+    public ISerialPortListener getListener(String id) {
+        return cacheListener.get(id);
+    }
+
+    @Override
+    public Map<String, ISerialPortListener> listListener() {
+        return new HashMap<>(cacheListener);
+    }
+
+    @Override
+    public ISerialPortListener removeListener(String id) {
+        return cacheListener.remove(id);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serialPort.removeListener(id);
+        serialPort.close();
+    }
+}
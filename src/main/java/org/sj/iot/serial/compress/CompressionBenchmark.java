@@ -0,0 +1,112 @@
+package org.sj.iot.serial.compress;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 链路压缩基准, 统计不同窗口下的压缩比, 编码速度及按比特率折算的有效吞吐提升
+ * <p>
+ * 用法: CompressionBenchmark [比特率, 默认9600]
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class CompressionBenchmark {
+    private static final int BITS_PER_BYTE = 10; // 8N1: 起始位 + 8数据位 + 1停止位
+
+    public static void main(String[] args) {
+        int baudRate = args.length > 0 ? Integer.parseInt(args[0]) : 9600;
+        Random random = new Random(2017);
+        byte[][] payloads = {config(random), firmware(random), noise(random)};
+        String[] names = {"config", "firmware", "random"};
+        System.out.printf("%-10s %6s %8s %8s %8s %12s %10s%n", "payload", "window", "raw", "wire", "ratio", "encode MB/s", "gain");
+        for (int i = 0; i < payloads.length; i++) {
+            for (int windowBits = LzssEncoder.MIN_WINDOW_BITS; windowBits <= LzssEncoder.MAX_WINDOW_BITS; windowBits += 2) {
+                run(names[i], payloads[i], windowBits, baudRate);
+            }
+        }
+    }
+
+    private static void run(String name, byte[] payload, int windowBits, int baudRate) {
+        LzssEncoder encoder = new LzssEncoder(windowBits, LzssEncoder.SYNC_HOST);
+        int chunk = 1024; // 按固件分块大小分帧
+        byte[] buffer = new byte[LzssEncoder.maxEncodedLength(chunk)];
+        long wire = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            wire = 0;
+            long start = System.nanoTime();
+            for (int off = 0; off < payload.length; off += chunk) {
+                wire += encoder.encode(payload, off, Math.min(chunk, payload.length - off), buffer, 0);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        verify(payload, chunk, windowBits);
+        double lineSeconds = (double) BITS_PER_BYTE / baudRate;
+        double rawSeconds = payload.length * lineSeconds;
+        double wireSeconds = wire * lineSeconds + best / 1e9;
+        System.out.printf("%-10s %6d %8d %8d %8.3f %12.1f %9.2fx%n", name, 1 << windowBits, payload.length, wire,
+                (double) wire / payload.length, payload.length / (best / 1e9) / 1e6, rawSeconds / wireSeconds);
+    }
+
+    /**
+     * 分片输入解码器, 校验往返一致
+     */
+    private static void verify(byte[] payload, int chunk, int windowBits) {
+        LzssEncoder encoder = new LzssEncoder(windowBits, LzssEncoder.SYNC_HOST);
+        LzssDecoder decoder = new LzssDecoder(windowBits, chunk, LzssEncoder.SYNC_HOST);
+        byte[] buffer = new byte[LzssEncoder.maxEncodedLength(chunk)];
+        byte[] result = new byte[payload.length];
+        int[] position = new int[1];
+        for (int off = 0; off < payload.length; off += chunk) {
+            int size = encoder.encode(payload, off, Math.min(chunk, payload.length - off), buffer, 0);
+            for (int i = 0; i < size; i += 7) {
+                decoder.feed(buffer, i, Math.min(7, size - i), frame -> {
+                    System.arraycopy(frame, 0, result, position[0], frame.length);
+                    position[0] += frame.length;
+                });
+            }
+        }
+        if (position[0] != payload.length || !Arrays.equals(payload, result) || decoder.getErrors() != 0) {
+            throw new IllegalStateException("解码结果与原始数据不一致!");
+        }
+    }
+
+    private static byte[] config(Random random) {
+        StringBuilder buffer = new StringBuilder();
+        for (int i = 0; buffer.length() < 16384; i++) {
+            buffer.append(String.format("channel.%d.name=sensor-%d%nchannel.%d.interval=%d%nchannel.%d.threshold=%d.%d%nchannel.%d.enabled=%b%n",
+                    i, random.nextInt(64), i, 100 * (1 + random.nextInt(10)), i, random.nextInt(100), random.nextInt(10), i, random.nextBoolean()));
+        }
+        return buffer.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 模拟固件: 常用指令字为主, 夹杂立即数和填充区
+     */
+    private static byte[] firmware(Random random) {
+        short[] opcodes = new short[48];
+        for (int i = 0; i < opcodes.length; i++) {
+            opcodes[i] = (short) random.nextInt();
+        }
+        byte[] data = new byte[32768];
+        for (int i = 0; i < data.length; i += 2) {
+            if (i % 4096 > 3800) {
+                data[i] = data[i + 1] = (byte) 0xFF; // 页尾填充
+                continue;
+            }
+            short word = random.nextInt(4) == 0 ? (short) random.nextInt() : opcodes[(int) Math.abs(random.nextGaussian() * 8) % opcodes.length];
+            data[i] = (byte) word;
+            data[i + 1] = (byte) (word >>> 8);
+        }
+        return data;
+    }
+
+    private static byte[] noise(Random random) {
+        byte[] data = new byte[16384];
+        random.nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,161 @@
+package org.sj.iot.serial.compress;
+
+import java.util.function.Consumer;
+
+import static org.sj.iot.serial.compress.LzssEncoder.*;
+
+/**
+ * LZSS帧增量解码器, 可按任意分片输入串口数据, 每解出完整一帧回调一次, 非线程安全
+ * <p>
+ * 按同步字节查找帧头, 帧头CRC, 长度上限(协商的最大帧长度)及数据CRC任一校验失败时, 从该同步字节的下一字节重新查找,
+ * 不信任错误帧头中的长度, 不丢弃其后的有效数据
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class LzssDecoder {
+    private final int sync; // 同步字节
+    private final int lengthBits; // 匹配长度位数
+    private final int window; // 窗口大小
+    private final int maxFrameLength; // 最大帧原始长度
+    private final byte[] buffer; // 线路数据累积缓冲区
+    private int start; // 未处理数据起始位置
+    private int end; // 未处理数据结束位置
+    private long errors; // 错误帧数
+
+    /**
+     * @param windowBits     窗口位数, 需与编码方一致
+     * @param maxFrameLength 最大帧原始长度, 超过视为错误帧
+     * @param sync           同步字节, SYNC_HOST或SYNC_DEVICE
+     */
+    public LzssDecoder(int windowBits, int maxFrameLength, int sync) {
+        if (windowBits < MIN_WINDOW_BITS || windowBits > MAX_WINDOW_BITS) {
+            throw new IllegalArgumentException(String.format("错误的窗口位数: %s", windowBits));
+        }
+        if (maxFrameLength <= 0 || maxFrameLength > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException(String.format("错误的最大帧长度: %s", maxFrameLength));
+        }
+        this.sync = sync;
+        this.lengthBits = 16 - windowBits;
+        this.window = 1 << windowBits;
+        this.maxFrameLength = maxFrameLength;
+        this.buffer = new byte[HEADER_LENGTH + maxFrameLength + CRC_LENGTH];
+    }
+
+    /**
+     * 输入串口数据
+     *
+     * @param consumer 完整帧回调
+     */
+    public void feed(byte[] data, int offset, int len, Consumer<byte[]> consumer) {
+        while (len > 0) {
+            if (end == buffer.length) {
+                // 未完成帧不超过最大帧长度, 压缩后必有剩余空间
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            }
+            int n = Math.min(len, buffer.length - end);
+            System.arraycopy(data, offset, buffer, end, n);
+            end += n;
+            offset += n;
+            len -= n;
+            frame(consumer);
+        }
+    }
+
+    /**
+     * 丢弃未完成数据
+     */
+    public void reset() {
+        start = end = 0;
+    }
+
+    /**
+     * 错误帧数
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    private void frame(Consumer<byte[]> consumer) {
+        while (start < end) {
+            if ((buffer[start] & 0xFF) != sync) {
+                start++;
+                continue;
+            }
+            if (end - start < HEADER_LENGTH) {
+                break;
+            }
+            int type = buffer[start + 1];
+            int length = (buffer[start + 2] & 0xFF) << 8 | (buffer[start + 3] & 0xFF);
+            int size = (buffer[start + 4] & 0xFF) << 8 | (buffer[start + 5] & 0xFF);
+            if ((buffer[start + 6] & 0xFF) != Crc.crc8(buffer, start + 1, HEADER_LENGTH - 2)
+                    || length > maxFrameLength
+                    || !(type == TYPE_STORED && size == length || type == TYPE_LZSS && size < length)) {
+                errors++;
+                start++;
+                continue;
+            }
+            int total = HEADER_LENGTH + size + CRC_LENGTH;
+            if (end - start < total) {
+                break;
+            }
+            int body = start + HEADER_LENGTH;
+            int crc = (buffer[body + size] & 0xFF) << 8 | (buffer[body + size + 1] & 0xFF);
+            byte[] result = crc == Crc.crc16(buffer, body, size) ? decode(type, body, size, length) : null;
+            if (result == null) {
+                errors++;
+                start++;
+                continue;
+            }
+            start += total;
+            consumer.accept(result);
+        }
+        if (start == end) {
+            start = end = 0;
+        }
+    }
+
+    /**
+     * 解码数据, 数据错误返回null
+     */
+    private byte[] decode(int type, int body, int size, int length) {
+        byte[] result = new byte[length];
+        if (type == TYPE_STORED) {
+            System.arraycopy(buffer, body, result, 0, length);
+            return result;
+        }
+        int position = 0;
+        int i = body;
+        int end = body + size;
+        while (i < end) {
+            int flags = buffer[i++] & 0xFF;
+            for (int bit = 0; bit < 8 && i < end; bit++) {
+                if ((flags & (1 << bit)) == 0) {
+                    if (position == length) {
+                        return null;
+                    }
+                    result[position++] = buffer[i++];
+                    continue;
+                }
+                if (i + 2 > end) {
+                    return null;
+                }
+                int token = (buffer[i] & 0xFF) << 8 | (buffer[i + 1] & 0xFF);
+                i += 2;
+                int distance = (token >>> lengthBits) + 1;
+                int count = (token & ((1 << lengthBits) - 1)) + MIN_MATCH;
+                if (distance > position || distance > window || position + count > length) {
+                    return null;
+                }
+                // 允许重叠复制
+                for (int j = 0; j < count; j++, position++) {
+                    result[position] = result[position - distance];
+                }
+            }
+        }
+        return position == length ? result : null;
+    }
+}
@@ -0,0 +1,181 @@
+package org.sj.iot.serial.compress;
+
+import java.util.Arrays;
+
+/**
+ * LZSS帧编码器, 可复用, 非线程安全
+ * <p>
+ * 帧格式: 同步字节(1字节) + 类型(1字节) + 原始长度(2字节, 大端) + 数据长度(2字节, 大端) + 帧头CRC-8(1字节)
+ * + 数据 + 数据CRC-16(2字节, 大端). 主机发往串口设备的同步字节为SYNC_HOST, 串口设备发往主机为SYNC_DEVICE,
+ * 半双工链路回显的主机帧不会被当作串口设备数据. 类型0为原始数据, 类型1为压缩数据.
+ * 压缩数据每8项前有1字节标志(低位在前, 1为匹配), 字面量1字节, 匹配2字节(大端):
+ * (偏移 - 1) &lt;&lt; lengthBits | (长度 - MIN_MATCH), lengthBits = 16 - windowBits,
+ * 解码方仅需保留2^windowBits字节历史数据
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class LzssEncoder {
+    public static final int SYNC_HOST = 0x7E;
+    public static final int SYNC_DEVICE = 0x7D;
+    public static final int TYPE_STORED = 0;
+    public static final int TYPE_LZSS = 1;
+    public static final int HEADER_LENGTH = 7;
+    public static final int CRC_LENGTH = 2;
+    public static final int MAX_FRAME_LENGTH = 0xFFFF; // 单帧最大原始长度
+    public static final int MIN_MATCH = 3;
+    public static final int MIN_WINDOW_BITS = 8;
+    public static final int MAX_WINDOW_BITS = 12;
+
+    private static final int HASH_BITS = 12;
+    private static final int MAX_CHAIN = 16; // 匹配查找最大链长
+
+    private final int sync; // 同步字节
+    private final int windowBits; // 窗口位数
+    private final int lengthBits; // 匹配长度位数
+    private final int window; // 窗口大小
+    private final int maxMatch; // 最大匹配长度
+    private final int[] head = new int[1 << HASH_BITS]; // 哈希 -> 最近位置
+    private final int[] prev; // 位置 -> 同哈希上一位置
+
+    /**
+     * @param windowBits 窗口位数, 8~12, 越小解码方占用内存越少
+     * @param sync       同步字节, SYNC_HOST或SYNC_DEVICE
+     */
+    public LzssEncoder(int windowBits, int sync) {
+        if (windowBits < MIN_WINDOW_BITS || windowBits > MAX_WINDOW_BITS) {
+            throw new IllegalArgumentException(String.format("错误的窗口位数: %s", windowBits));
+        }
+        this.sync = sync;
+        this.windowBits = windowBits;
+        this.lengthBits = 16 - windowBits;
+        this.window = 1 << windowBits;
+        this.maxMatch = MIN_MATCH + (1 << lengthBits) - 1;
+        this.prev = new int[window];
+    }
+
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    /**
+     * 编码后最大长度, 用于分配输出缓冲区
+     */
+    public static int maxEncodedLength(int length) {
+        return HEADER_LENGTH + length + CRC_LENGTH;
+    }
+
+    /**
+     * 编码一帧, 压缩后不小于原始长度则以原始数据输出
+     *
+     * @param dst 输出缓冲区, 剩余长度不小于maxEncodedLength(length)
+     * @return 帧长度
+     */
+    public int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException(String.format("错误的帧长度: %s", length));
+        }
+        int body = dstOffset + HEADER_LENGTH;
+        // 压缩后需严格小于原始长度, 否则跳过压缩
+        int size = length > MIN_MATCH ? compress(src, offset, length, dst, body, body + length - 1) : -1;
+        int type = TYPE_LZSS;
+        if (size < 0) {
+            type = TYPE_STORED;
+            size = length;
+            System.arraycopy(src, offset, dst, body, length);
+        }
+        dst[dstOffset] = (byte) sync;
+        dst[dstOffset + 1] = (byte) type;
+        dst[dstOffset + 2] = (byte) (length >>> 8);
+        dst[dstOffset + 3] = (byte) length;
+        dst[dstOffset + 4] = (byte) (size >>> 8);
+        dst[dstOffset + 5] = (byte) size;
+        dst[dstOffset + 6] = (byte) Crc.crc8(dst, dstOffset + 1, HEADER_LENGTH - 2);
+        int crc = Crc.crc16(dst, body, size);
+        dst[body + size] = (byte) (crc >>> 8);
+        dst[body + size + 1] = (byte) crc;
+        return HEADER_LENGTH + size + CRC_LENGTH;
+    }
+
+    /**
+     * 压缩数据, 输出达到limit时放弃
+     *
+     * @return 压缩长度, 不可压缩返回-1
+     */
+    private int compress(byte[] src, int offset, int length, byte[] dst, int dstOffset, int limit) {
+        Arrays.fill(head, -1);
+        int end = offset + length;
+        int out = dstOffset;
+        int flagIndex = -1;
+        int bit = 8;
+        for (int pos = offset; pos < end; ) {
+            if (bit == 8) {
+                if (out >= limit) {
+                    return -1;
+                }
+                flagIndex = out++;
+                dst[flagIndex] = 0;
+                bit = 0;
+            }
+            int bestLength = 0;
+            int bestOffset = 0;
+            if (end - pos >= MIN_MATCH) {
+                int max = Math.min(maxMatch, end - pos);
+                int candidate = head[hash(src, pos)];
+                for (int chain = 0; candidate >= 0 && pos - candidate <= window && chain < MAX_CHAIN; chain++) {
+                    int len = 0;
+                    while (len < max && src[candidate + len] == src[pos + len]) {
+                        len++;
+                    }
+                    if (len > bestLength) {
+                        bestLength = len;
+                        bestOffset = pos - candidate;
+                        if (len == max) {
+                            break;
+                        }
+                    }
+                    int next = prev[(candidate - offset) & (window - 1)];
+                    if (next >= candidate) {
+                        break; // 已被覆盖的过期链
+                    }
+                    candidate = next;
+                }
+            }
+            if (bestLength >= MIN_MATCH) {
+                if (out + 2 > limit) {
+                    return -1;
+                }
+                int token = (bestOffset - 1) << lengthBits | (bestLength - MIN_MATCH);
+                dst[out++] = (byte) (token >>> 8);
+                dst[out++] = (byte) token;
+                dst[flagIndex] |= (byte) (1 << bit);
+                for (int i = 0; i < bestLength; i++) {
+                    insert(src, pos++, offset, end);
+                }
+            } else {
+                if (out >= limit) {
+                    return -1;
+                }
+                dst[out++] = src[pos];
+                insert(src, pos++, offset, end);
+            }
+            bit++;
+        }
+        return out - dstOffset;
+    }
+
+    private void insert(byte[] src, int pos, int offset, int end) {
+        if (end - pos < MIN_MATCH) {
+            return;
+        }
+        int hash = hash(src, pos);
+        prev[(pos - offset) & (window - 1)] = head[hash];
+        head[hash] = pos;
+    }
+
+    private static int hash(byte[] src, int pos) {
+        int value = (src[pos] & 0xFF) << 16 | (src[pos + 1] & 0xFF) << 8 | (src[pos + 2] & 0xFF);
+        return (value * 0x9E3779B1) >>> (32 - HASH_BITS);
+    }
+}
@@ -6,6 +6,7 @@ import gnu.io.SerialPortEvent;
 import org.sj.iot.serial.ISerialPort;
 import org.sj.iot.serial.ISerialPortList;
 import org.sj.iot.serial.ISerialPortListener;
+import org.sj.iot.serial.SerialPacer;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -54,6 +55,12 @@ public class GnuSerialPortListImpl implements ISerialPortList {
         private InputStream receive; // 串口设备读取数据流
         private Map<String, ISerialPortListener> cacheListener = new ConcurrentHashMap<>();
         private boolean isClose; // 是否被关闭
+        private int[] params; // 比特率, 数据位, 停止位, 奇偶检验位
+        private int pacing; // 串口设备接收缓冲区大小, 小于等于0不节流
+        private int drainRate; // 串口设备处理速率, 单位: 字节/秒, 小于等于0不节流
+        private volatile SerialPacer pacer; // 发送节流
+        private final byte[] readChunk = new byte[2048]; // 读取缓冲区
+        private final ByteArrayOutputStream readBuffer = new ByteArrayOutputStream(); // 读取数据累积
 
         private GnuSerialPortImpl(CommPortIdentifier identifier) {
             if (identifier == null) {
@@ -75,6 +82,11 @@ public class GnuSerialPortListImpl implements ISerialPortList {
 
         @Override
         public void open(int b, int d, int s, int p, int timeout) {
+            open(b, d, s, p, FLOWCONTROL_NONE, timeout);
+        }
+
+        @Override
+        public void open(int b, int d, int s, int p, int f, int timeout) {
             if (timeout < 0) {
                 timeout = 1000;
             } else if (timeout > 60000) {
@@ -97,11 +109,16 @@ public class GnuSerialPortListImpl implements ISerialPortList {
             }
             try {
                 // 设置串口的读写参数, 比特率, 数据位, 停止位, 奇偶检验位
-                serialPort.setSerialPortParams(9600, SerialPort.DATABITS_8, SerialPort.STOPBITS_1, SerialPort.PARITY_NONE);
+                serialPort.setSerialPortParams(b, d, s, p);
+                serialPort.setFlowControlMode(f);
                 isClose = false;
             } catch (Exception e) {
                 throw new RuntimeException(String.format("设置串口设备[%s]参数失败: %s", name, e.getMessage()));
             }
+            synchronized (this) {
+                params = new int[]{b, d, s, p};
+                pacer = SerialPacer.create(b, d, s, p, pacing, drainRate);
+            }
             try {
                 serialPort.addEventListener(this::listener);
             } catch (Exception e) {
@@ -119,20 +136,19 @@ public class GnuSerialPortListImpl implements ISerialPortList {
                     return;
                 }
                 if (!cacheListener.isEmpty()) {
-                    byte[] buffer = new byte[2048];
-                    try (ByteArrayOutputStream tmp = new ByteArrayOutputStream()) {
-                        for (int len; (len = receive.read(buffer)) > 0; ) {
-                            tmp.write(buffer, 0, len);
-                        }
-                        byte[] result = tmp.toByteArray();
-                        cacheListener.values().parallelStream().filter(Objects::nonNull).forEach(listener -> {
-                            try {
-                                listener.accept(result.clone());
-                            } catch (Exception e) {
-                                throw new RuntimeException(String.format("处理串口设备[%s]数据失败: %s", name, e.getMessage()));
-                            }
-                        });
+                    // 事件线程单线程回调, 复用读取缓冲区
+                    readBuffer.reset();
+                    for (int len; (len = receive.read(readChunk)) > 0; ) {
+                        readBuffer.write(readChunk, 0, len);
                     }
+                    byte[] result = readBuffer.toByteArray();
+                    cacheListener.values().parallelStream().filter(Objects::nonNull).forEach(listener -> {
+                        try {
+                            listener.accept(result.clone());
+                        } catch (Exception e) {
+                            throw new RuntimeException(String.format("处理串口设备[%s]数据失败: %s", name, e.getMessage()));
+                        }
+                    });
                 }
             } catch (Exception e) {
                 throw new RuntimeException(String.format("读取串口设备[%s]发送数据失败: %s", name, e.getMessage()));
@@ -151,17 +167,42 @@ public class GnuSerialPortListImpl implements ISerialPortList {
 
         @Override
         public void sent(byte[] data) {
+            sent(data, 0, data.length);
+        }
+
+        @Override
+        public void sent(byte[] data, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, data.length);
             if (!isOpen()) {
                 throw new IllegalStateException("未打开串口设备通信通道!");
             }
+            SerialPacer pacer = this.pacer;
             try {
-                sent.write(data);
-                sent.flush();
+                if (pacer == null) {
+                    sent.write(data, offset, length);
+                    sent.flush();
+                    return;
+                }
+                for (int off = offset, end = offset + length; off < end; ) {
+                    int len = pacer.acquire(end - off);
+                    sent.write(data, off, len);
+                    sent.flush();
+                    off += len;
+                }
             } catch (IOException e) {
                 throw new RuntimeException(String.format("串口设备[%s]通讯通道写入数据失败: %s", name, e.getMessage()));
             }
         }
 
+        @Override
+        public synchronized void setPacing(int bufferSize, int drainRate) {
+            this.pacing = bufferSize;
+            this.drainRate = drainRate;
+            if (params != null) {
+                pacer = SerialPacer.create(params[0], params[1], params[2], params[3], bufferSize, drainRate);
+            }
+        }
+
         @Override
         public void addListener(String id, ISerialPortListener listener) {
             cacheListener.put(id, listener);
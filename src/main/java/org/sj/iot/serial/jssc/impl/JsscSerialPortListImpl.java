@@ -6,8 +6,10 @@ import jssc.SerialPortEvent;
 import org.sj.iot.serial.ISerialPort;
 import org.sj.iot.serial.ISerialPortList;
 import org.sj.iot.serial.ISerialPortListener;
+import org.sj.iot.serial.SerialPacer;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -42,6 +44,10 @@ public class JsscSerialPortListImpl implements ISerialPortList {
         private String name; // 串口设备名称
         private SerialPort serialPort; // 串口设备
         private Map<String, ISerialPortListener> cacheListener = new ConcurrentHashMap<>();
+        private int[] params; // 比特率, 数据位, 停止位, 奇偶检验位
+        private int pacing; // 串口设备接收缓冲区大小, 小于等于0不节流
+        private int drainRate; // 串口设备处理速率, 单位: 字节/秒, 小于等于0不节流
+        private volatile SerialPacer pacer; // 发送节流
 
         public JsscSerialPortImpl(String name) {
             this.name = name;
@@ -59,6 +65,11 @@ public class JsscSerialPortListImpl implements ISerialPortList {
 
         @Override
         public void open(int b, int d, int s, int p, int timeout) {
+            open(b, d, s, p, FLOWCONTROL_NONE, timeout);
+        }
+
+        @Override
+        public void open(int b, int d, int s, int p, int f, int timeout) {
             serialPort = new SerialPort(name);
             try {
                 serialPort.openPort();
@@ -66,9 +77,17 @@ public class JsscSerialPortListImpl implements ISerialPortList {
                 if (!flag) {
                     throw new IllegalArgumentException(String.format("错误的串口参数: %s, %s, %s, %s", b, d, s, p));
                 }
+                flag = serialPort.setFlowControlMode(f);
+                if (!flag) {
+                    throw new IllegalArgumentException(String.format("错误的串口流控制: %s", f));
+                }
             } catch (Exception e) {
                 throw new RuntimeException(String.format("打开串口设备[%s]失败: %s", name, e.getMessage()));
             }
+            synchronized (this) {
+                params = new int[]{b, d, s, p};
+                pacer = SerialPacer.create(b, d, s, p, pacing, drainRate);
+            }
             try {
                 serialPort.addEventListener(this::listener);
             } catch (Exception e) {
@@ -133,16 +152,38 @@ public class JsscSerialPortListImpl implements ISerialPortList {
 
         @Override
         public void sent(byte[] data) {
+            sent(data, 0, data.length);
+        }
+
+        @Override
+        public void sent(byte[] data, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, data.length);
             if (!isOpen()) {
                 throw new IllegalStateException("未打开串口设备通信通道!");
             }
+            SerialPacer pacer = this.pacer;
             try {
-                serialPort.writeBytes(data);
+                int end = offset + length;
+                for (int off = offset; off < end; ) {
+                    int len = pacer == null ? end - off : pacer.acquire(end - off);
+                    // JSSC仅支持写入整个数组
+                    serialPort.writeBytes(off == 0 && len == data.length ? data : Arrays.copyOfRange(data, off, off + len));
+                    off += len;
+                }
             } catch (Exception e) {
                 throw new RuntimeException(String.format("串口设备[%s]通讯通道写入数据失败: %s", name, e.getMessage()));
             }
         }
 
+        @Override
+        public synchronized void setPacing(int bufferSize, int drainRate) {
+            this.pacing = bufferSize;
+            this.drainRate = drainRate;
+            if (params != null) {
+                pacer = SerialPacer.create(params[0], params[1], params[2], params[3], bufferSize, drainRate);
+            }
+        }
+
         @Override
         public void addListener(String id, ISerialPortListener listener) {
             cacheListener.put(id, listener);
@@ -0,0 +1,128 @@
+package org.sj.iot.shm;
+
+import java.io.File;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * 单写多读内存映射广播环, 写入方不等待读取方, 各读取方独立维护游标, 读取落后超过一圈时丢弃积压并从最新位置继续
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class BroadcastRing extends MappedRing {
+    private static final int MAGIC = 0x494F5442; // IOTB
+    private static final int TAIL_INTENT_OFFSET = 64; // 写入方即将写到的位置
+    private static final int TAIL_OFFSET = 128; // 已发布位置
+
+    private final ByteBuffer view; // 本实例独占的缓冲区副本, 用于批量复制
+    private long tail; // 写入方: 已发布位置
+    private long cursor; // 读取方: 读取游标
+    private long lapped; // 读取方: 被覆盖次数
+
+    private BroadcastRing(ByteBuffer buffer, boolean fromStart) {
+        super(buffer, buffer.getInt(CAPACITY_OFFSET));
+        this.view = buffer.duplicate();
+        this.tail = (long) LONG.getAcquire(buffer, TAIL_OFFSET);
+        this.cursor = fromStart ? 0 : tail;
+    }
+
+    /**
+     * 写入方创建广播环, 同一文件只允许一个写入方
+     *
+     * @param capacity 数据区大小, 单位: 字节, 2的幂
+     */
+    public static BroadcastRing create(File file, int capacity) {
+        return new BroadcastRing(create(file, MAGIC, capacity), false);
+    }
+
+    /**
+     * 读取方连接广播环, 从当前最新位置开始读取
+     */
+    public static BroadcastRing attach(File file) {
+        return new BroadcastRing(attach(file, MAGIC), false);
+    }
+
+    /**
+     * 读取方连接重建后的广播环, 从本纪元起始位置开始读取, 已被覆盖时从最新位置继续
+     */
+    public static BroadcastRing reattach(File file) {
+        return new BroadcastRing(attach(file, MAGIC), true);
+    }
+
+    /**
+     * 发布一条记录
+     */
+    public synchronized void publish(byte[] data, int offset, int length) {
+        checkLength(length);
+        int size = align(RECORD_HEADER_LENGTH + length);
+        int index = (int) (tail & mask);
+        int toEnd = capacity - index;
+        int padding = size > toEnd ? toEnd : 0;
+        long newTail = tail + padding + size;
+        // 先声明将覆盖的范围, 读取方复制后据此校验数据是否被覆盖
+        LONG.setOpaque(buffer, TAIL_INTENT_OFFSET, newTail);
+        VarHandle.releaseFence();
+        if (padding != 0) {
+            buffer.putInt(HEADER_LENGTH + index, -padding);
+            index = 0;
+        }
+        buffer.putInt(HEADER_LENGTH + index, length);
+        put(view, index + RECORD_HEADER_LENGTH, data, offset, length);
+        LONG.setRelease(buffer, TAIL_OFFSET, newTail);
+        tail = newTail;
+    }
+
+    /**
+     * 读取下一条记录
+     *
+     * @param dst 接收缓冲区, 长度不小于maxLength()
+     * @return 记录长度, 无新记录或被覆盖时返回0
+     */
+    public int read(byte[] dst) {
+        long tail = (long) LONG.getAcquire(buffer, TAIL_OFFSET);
+        while (cursor < tail) {
+            int index = (int) (cursor & mask);
+            int length = buffer.getInt(HEADER_LENGTH + index);
+            if (!validate(cursor)) {
+                return lap();
+            }
+            if (length < 0) {
+                cursor -= length; // 跳过填充
+                continue;
+            }
+            if (length > dst.length) {
+                throw new IllegalArgumentException(String.format("接收缓冲区长度不足: %s, 记录长度: %s", dst.length, length));
+            }
+            get(view, index + RECORD_HEADER_LENGTH, dst, 0, length);
+            if (!validate(cursor)) {
+                return lap();
+            }
+            cursor += align(RECORD_HEADER_LENGTH + length);
+            return length;
+        }
+        return 0;
+    }
+
+    /**
+     * 读取方被写入方覆盖的次数
+     */
+    public long lapped() {
+        return lapped;
+    }
+
+    /**
+     * 游标处记录未被写入方覆盖
+     */
+    private boolean validate(long cursor) {
+        VarHandle.acquireFence();
+        return cursor + capacity >= (long) LONG.getVolatile(buffer, TAIL_INTENT_OFFSET);
+    }
+
+    private int lap() {
+        lapped++;
+        cursor = (long) LONG.getAcquire(buffer, TAIL_OFFSET);
+        return 0;
+    }
+}
@@ -0,0 +1,181 @@
+package org.sj.iot.shm;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射环形缓冲区基类, 文件由头部和数据区组成, 头部各计数器独占缓存行
+ * <p>
+ * 记录格式: int长度 + int保留 + 数据, 按8字节对齐, 长度为负数表示填充到缓冲区末尾
+ * <p>
+ * 重建: 不在原文件上截断(其他进程仍映射该文件, 截断会导致访问时SIGBUS), 而是先在旧文件头部标记已重建,
+ * 删除旧文件后创建新文件, 新文件纪元为旧纪元加1. 已连接方检测到重建标记后需重新连接;
+ * 所属进程关闭时标记已关闭, 已连接方据此停止读写, 直到所属进程重建文件.
+ * Windows下文件被其他进程映射时无法删除, 此时拒绝重建
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+abstract class MappedRing {
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    static final int MAGIC_OFFSET = 0;
+    static final int CAPACITY_OFFSET = 4;
+    static final int EPOCH_OFFSET = 8; // 纪元, 每次重建加1
+    static final int STATE_OFFSET = 16; // 状态, 0为正常
+    static final int STATE_RETIRED = 1; // 已被重建, 连接方需重新连接
+    static final int STATE_CLOSED = 2; // 所属进程已关闭
+    static final int HEADER_LENGTH = 256; // 头部长度, 子类计数器位于64, 128, 192
+    static final int RECORD_HEADER_LENGTH = 8;
+    static final int ALIGNMENT = 8;
+
+    final ByteBuffer buffer; // 映射缓冲区
+    final int capacity; // 数据区大小, 2的幂
+    final int mask;
+    final int maxLength; // 单条记录最大数据长度
+    final long epoch; // 纪元
+
+    MappedRing(ByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.epoch = buffer.getLong(EPOCH_OFFSET);
+        this.mask = capacity - 1;
+        this.maxLength = capacity / 8 - RECORD_HEADER_LENGTH;
+    }
+
+    /**
+     * 创建映射文件, 已存在的文件将被标记关闭并删除后重新创建
+     */
+    static ByteBuffer create(File file, int magic, int capacity) {
+        if (capacity < 1024 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(String.format("错误的共享内存容量, 必须为不小于1024的2的幂: %s", capacity));
+        }
+        long epoch = 0;
+        if (file.exists()) {
+            epoch = retire(file, magic);
+            if (!file.delete()) {
+                throw new IllegalStateException(String.format("共享内存文件[%s]正被使用, 无法重建", file));
+            }
+        }
+        ByteBuffer buffer = map(file, HEADER_LENGTH + capacity, true);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putLong(EPOCH_OFFSET, epoch + 1);
+        INT.setRelease(buffer, MAGIC_OFFSET, magic); // 最后写入标识, 连接方据此判断文件已初始化
+        return buffer;
+    }
+
+    /**
+     * 标记旧文件已关闭, 返回旧文件纪元
+     */
+    private static long retire(File file, int magic) {
+        if (file.length() <= HEADER_LENGTH) {
+            return 0;
+        }
+        ByteBuffer buffer = map(file, HEADER_LENGTH, false);
+        if ((int) INT.getAcquire(buffer, MAGIC_OFFSET) != magic) {
+            return 0;
+        }
+        INT.setRelease(buffer, STATE_OFFSET, STATE_RETIRED);
+        return buffer.getLong(EPOCH_OFFSET);
+    }
+
+    /**
+     * 连接已创建的映射文件
+     */
+    static ByteBuffer attach(File file, int magic) {
+        long length = file.length();
+        if (length <= HEADER_LENGTH) {
+            throw new IllegalStateException(String.format("共享内存文件[%s]未初始化", file));
+        }
+        ByteBuffer buffer = map(file, length, false);
+        if ((int) INT.getAcquire(buffer, MAGIC_OFFSET) != magic) {
+            throw new IllegalStateException(String.format("共享内存文件[%s]格式错误", file));
+        }
+        if (HEADER_LENGTH + buffer.getInt(CAPACITY_OFFSET) != length) {
+            throw new IllegalStateException(String.format("共享内存文件[%s]长度错误: %s", file, length));
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer map(File file, long length, boolean create) {
+        try (FileChannel channel = create
+                ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 映射在通道关闭后仍然有效
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            return buffer.order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("映射共享内存文件[%s]失败: %s", file, e.getMessage()));
+        }
+    }
+
+    /**
+     * 纪元, 每次重建加1
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 文件是否已关闭(所属进程已关闭或已重建)
+     */
+    public boolean isClosed() {
+        return (int) INT.getAcquire(buffer, STATE_OFFSET) != 0;
+    }
+
+    /**
+     * 文件是否已被重建, 已重建时需重新连接
+     */
+    boolean isRetired() {
+        return (int) INT.getAcquire(buffer, STATE_OFFSET) == STATE_RETIRED;
+    }
+
+    /**
+     * 所属进程标记文件已关闭, 已重建的文件保持重建标记
+     */
+    void close() {
+        INT.compareAndSet(buffer, STATE_OFFSET, 0, STATE_CLOSED);
+    }
+
+    /**
+     * 单条记录最大数据长度
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    void checkLength(int length) {
+        if (length <= 0 || length > maxLength) {
+            throw new IllegalArgumentException(String.format("错误的记录长度: %s, 最大: %s", length, maxLength));
+        }
+    }
+
+    /**
+     * 从数据区读取到字节数组, view为调用方独占的缓冲区副本
+     */
+    static void get(ByteBuffer view, int index, byte[] dst, int offset, int length) {
+        view.limit(HEADER_LENGTH + index + length).position(HEADER_LENGTH + index);
+        view.get(dst, offset, length);
+    }
+
+    /**
+     * 从字节数组写入数据区, view为调用方独占的缓冲区副本
+     */
+    static void put(ByteBuffer view, int index, byte[] src, int offset, int length) {
+        view.limit(HEADER_LENGTH + index + length).position(HEADER_LENGTH + index);
+        view.put(src, offset, length);
+    }
+}
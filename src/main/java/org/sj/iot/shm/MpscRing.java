@@ -0,0 +1,158 @@
+package org.sj.iot.shm;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多写单读内存映射队列, 多个进程通过CAS竞争写入位置, 单个读取方按顺序消费
+ * <p>
+ * 记录长度最后以release语义写入作为提交标志, 读取方消费后将记录区域清零再释放.
+ * 写入方申请位置后先写入记录头部保留字段为记录大小, 再复制数据; 写入方在提交前退出时,
+ * 读取方等待超时后按记录大小跳过该记录, 记录大小也未写入时无法恢复, 由读取方重建队列
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class MpscRing extends MappedRing {
+    private static final int MAGIC = 0x494F5451; // IOTQ
+    private static final int TAIL_OFFSET = 64; // 写入方已申请位置
+    private static final int HEAD_OFFSET = 128; // 读取方已消费位置
+    private static final int SIZE_OFFSET = 4; // 记录头部中记录大小位置
+    private static final long CLAIM_TIMEOUT = TimeUnit.SECONDS.toNanos(3); // 已申请记录未提交的最长等待时间, 需大于写入方正常停顿
+
+    private final ThreadLocal<ByteBuffer> views; // 各写入线程独占的缓冲区副本
+    private final ByteBuffer view; // 读取方缓冲区副本
+    private long head; // 读取方: 已消费位置
+    private long stallHead = -1; // 读取方: 等待提交的位置
+    private long stallSince; // 读取方: 开始等待提交的时间
+    private long skipped; // 读取方: 超时未提交被跳过的记录数
+
+    private MpscRing(ByteBuffer buffer) {
+        super(buffer, buffer.getInt(CAPACITY_OFFSET));
+        this.views = ThreadLocal.withInitial(buffer::duplicate);
+        this.view = buffer.duplicate();
+        this.head = (long) LONG.getAcquire(buffer, HEAD_OFFSET);
+    }
+
+    /**
+     * 读取方创建队列, 同一文件只允许一个读取方
+     *
+     * @param capacity 数据区大小, 单位: 字节, 2的幂
+     */
+    public static MpscRing create(File file, int capacity) {
+        return new MpscRing(create(file, MAGIC, capacity));
+    }
+
+    /**
+     * 写入方连接队列
+     */
+    public static MpscRing attach(File file) {
+        return new MpscRing(attach(file, MAGIC));
+    }
+
+    /**
+     * 写入一条记录, 线程安全
+     *
+     * @return 队列已满, 已关闭或等待提交超时被跳过返回false
+     */
+    public boolean offer(byte[] data, int offset, int length) {
+        checkLength(length);
+        if (isClosed()) {
+            return false;
+        }
+        int size = align(RECORD_HEADER_LENGTH + length);
+        long tail;
+        int index;
+        int padding;
+        do {
+            long head = (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+            tail = (long) LONG.getVolatile(buffer, TAIL_OFFSET);
+            index = (int) (tail & mask);
+            int toEnd = capacity - index;
+            padding = size > toEnd ? toEnd : 0;
+            if (tail + padding + size - head > capacity) {
+                return false;
+            }
+        } while (!LONG.compareAndSet(buffer, TAIL_OFFSET, tail, tail + padding + size));
+        if (padding != 0) {
+            INT.setRelease(buffer, HEADER_LENGTH + index, -padding);
+            index = 0;
+        }
+        INT.setRelease(buffer, HEADER_LENGTH + index + SIZE_OFFSET, size);
+        put(views.get(), index + RECORD_HEADER_LENGTH, data, offset, length);
+        if ((long) LONG.getVolatile(buffer, HEAD_OFFSET) > tail + padding) {
+            // 停顿超时已被读取方跳过, 不能再提交
+            return false;
+        }
+        INT.setRelease(buffer, HEADER_LENGTH + index, length);
+        return true;
+    }
+
+    /**
+     * 读取一条记录, 仅允许单线程调用
+     *
+     * @param dst 接收缓冲区, 长度不小于maxLength()
+     * @return 记录长度, 无记录返回0
+     */
+    public int poll(byte[] dst) {
+        while (true) {
+            int index = (int) (head & mask);
+            int length = (int) INT.getAcquire(buffer, HEADER_LENGTH + index);
+            if (length == 0) {
+                length = uncommitted(index);
+                if (length == 0) {
+                    return 0;
+                }
+            }
+            int size = length < 0 ? -length : align(RECORD_HEADER_LENGTH + length);
+            if (length > 0) {
+                if (length > dst.length) {
+                    throw new IllegalArgumentException(String.format("接收缓冲区长度不足: %s, 记录长度: %s", dst.length, length));
+                }
+                get(view, index + RECORD_HEADER_LENGTH, dst, 0, length);
+            }
+            // 清零已消费区域, 保证下一圈的长度字段初始为0
+            for (int i = HEADER_LENGTH + index, end = i + size; i < end; i += ALIGNMENT) {
+                buffer.putLong(i, 0L);
+            }
+            head += size;
+            LONG.setRelease(buffer, HEAD_OFFSET, head);
+            if (length > 0) {
+                return length;
+            }
+        }
+    }
+
+    /**
+     * 超时未提交而被跳过的记录数
+     */
+    public long skipped() {
+        return skipped;
+    }
+
+    /**
+     * 处理已申请未提交的位置, 等待超时后返回负的记录大小作为填充跳过, 否则返回0
+     */
+    private int uncommitted(int index) {
+        if (head == (long) LONG.getAcquire(buffer, TAIL_OFFSET)) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (stallHead != head) {
+            stallHead = head;
+            stallSince = now;
+            return 0;
+        }
+        if (now - stallSince < CLAIM_TIMEOUT) {
+            return 0;
+        }
+        int size = (int) INT.getAcquire(buffer, HEADER_LENGTH + index + SIZE_OFFSET);
+        if (size <= 0 || size > capacity - index || (size & (ALIGNMENT - 1)) != 0) {
+            throw new IllegalStateException(String.format("队列位置[%s]的记录未提交且无法恢复", head));
+        }
+        skipped++;
+        return -size;
+    }
+}
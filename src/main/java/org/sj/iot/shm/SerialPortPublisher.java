@@ -0,0 +1,143 @@
+package org.sj.iot.shm;
+
+import org.sj.iot.serial.ISerialPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 串口设备共享内存发布(串口所属进程), 将接收数据广播到共享内存, 并将其他进程写入队列的数据发送到串口设备.
+ * 每次开始发布时重建共享内存文件, 关闭时标记文件已关闭
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class SerialPortPublisher implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SerialPortPublisher.class);
+
+    private final ISerialPort serialPort; // 串口设备
+    private final File broadcastFile; // 接收数据广播文件
+    private final File queueFile; // 发送数据队列文件
+    private final int capacity; // 数据区大小
+    private BroadcastRing broadcast; // 接收数据广播
+    private MpscRing queue; // 其他进程发送数据队列
+    private final String id = UUID.randomUUID().toString(); // 监听器标识
+    private volatile boolean running;
+    private Thread thread; // 发送队列消费线程
+
+    /**
+     * @param broadcastFile 接收数据广播文件
+     * @param queueFile     发送数据队列文件
+     * @param capacity      数据区大小, 单位: 字节, 2的幂
+     */
+    public SerialPortPublisher(ISerialPort serialPort, File broadcastFile, File queueFile, int capacity) {
+        if (serialPort == null) {
+            throw new IllegalArgumentException("串口设备不能为空!");
+        }
+        this.serialPort = serialPort;
+        this.broadcastFile = broadcastFile;
+        this.queueFile = queueFile;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 开始发布, 串口设备需已打开, 重建共享内存文件
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        broadcast = BroadcastRing.create(broadcastFile, capacity);
+        try {
+            queue = MpscRing.create(queueFile, capacity);
+        } catch (RuntimeException e) {
+            broadcast.close();
+            throw e;
+        }
+        running = true;
+        serialPort.addListener(id, this::publish);
+        thread = new Thread(this::drain, String.format("serial-publisher-%s", serialPort.getName()));
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 广播接收数据, 超过单条记录最大长度时拆分为多条
+     */
+    private void publish(byte[] result) {
+        int maxLength = broadcast.maxLength();
+        for (int off = 0; off < result.length; off += maxLength) {
+            broadcast.publish(result, off, Math.min(maxLength, result.length - off));
+        }
+    }
+
+    /**
+     * 消费发送队列, 空闲时依次自旋, 让出, 休眠
+     */
+    private void drain() {
+        byte[] buffer = new byte[queue.maxLength()];
+        int idle = 0;
+        while (running) {
+            int length;
+            try {
+                length = queue.poll(buffer);
+            } catch (IllegalStateException e) {
+                // 写入方在申请位置后退出, 队列无法恢复, 重建后其他进程自动重新连接
+                LOGGER.error("共享内存队列[{}]无法恢复, 重建队列: {}", queueFile, e.getMessage());
+                try {
+                    queue = MpscRing.create(queueFile, capacity);
+                } catch (RuntimeException ex) {
+                    LOGGER.error("重建共享内存队列[{}]失败: {}", queueFile, ex.getMessage());
+                    LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                }
+                continue;
+            }
+            if (length > 0) {
+                idle = 0;
+                try {
+                    serialPort.sent(buffer, 0, length);
+                } catch (Exception e) {
+                    LOGGER.error("共享内存队列数据发送到串口设备[{}]失败: {}", serialPort.getName(), e.getMessage());
+                }
+            } else if (++idle < 1000) {
+                Thread.onSpinWait();
+            } else if (idle < 2000) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        serialPort.removeListener(id);
+        LockSupport.unpark(thread);
+        // 等待消费线程退出, 队列仅允许单线程消费, 之后才能再次start
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        // 通知其他进程已停止发布
+        broadcast.close();
+        queue.close();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.sj.iot.shm;
+
+import java.io.File;
+import java.util.function.Function;
+
+/**
+ * 串口设备共享内存订阅(其他进程), 读取串口所属进程广播的接收数据, 并通过队列向串口设备发送数据
+ * <p>
+ * 读取非线程安全, 每个读取线程应使用独立的订阅对象. 串口所属进程重建共享内存文件后自动重新连接, 从新文件起始位置继续读取;
+ * 串口所属进程关闭发布后读取不到新数据, 发送返回false, 直到其重新发布
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2026-10-19
+ */
+public class SerialPortSubscriber {
+    private final File broadcastFile; // 接收数据广播文件
+    private final File queueFile; // 发送数据队列文件
+    private volatile BroadcastRing broadcast; // 接收数据广播
+    private volatile MpscRing queue; // 发送数据队列
+
+    /**
+     * @param broadcastFile 接收数据广播文件
+     * @param queueFile     发送数据队列文件
+     */
+    public SerialPortSubscriber(File broadcastFile, File queueFile) {
+        this.broadcastFile = broadcastFile;
+        this.queueFile = queueFile;
+        this.broadcast = BroadcastRing.attach(broadcastFile);
+        this.queue = MpscRing.attach(queueFile);
+    }
+
+    /**
+     * 读取下一条串口设备接收数据
+     *
+     * @param buffer 接收缓冲区, 长度不小于maxLength()
+     * @return 数据长度, 无新数据返回0
+     */
+    public int read(byte[] buffer) {
+        int length = broadcast.read(buffer);
+        if (length == 0 && broadcast.isRetired()) {
+            // 旧文件中剩余数据已读完, 连接重建后的文件
+            BroadcastRing ring = attach(broadcastFile, BroadcastRing::reattach);
+            if (ring != null) {
+                broadcast = ring;
+                length = ring.read(buffer);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 发送数据到串口设备
+     *
+     * @return 队列已满, 串口所属进程已关闭或尚未重建队列返回false
+     */
+    public boolean sent(byte[] data, int offset, int length) {
+        MpscRing queue = this.queue;
+        if (queue.isRetired()) {
+            synchronized (this) {
+                if (this.queue == queue) {
+                    MpscRing ring = attach(queueFile, MpscRing::attach);
+                    if (ring != null) {
+                        this.queue = ring;
+                    }
+                }
+                queue = this.queue;
+            }
+        }
+        return queue.offer(data, offset, length);
+    }
+
+    /**
+     * 串口所属进程是否已关闭发布或正在重建共享内存文件
+     */
+    public boolean isClosed() {
+        return broadcast.isClosed();
+    }
+
+    /**
+     * 读取落后被覆盖而丢失数据的次数
+     */
+    public long lapped() {
+        return broadcast.lapped();
+    }
+
+    /**
+     * 当前连接的广播文件纪元, 串口所属进程每次重建加1
+     */
+    public long getEpoch() {
+        return broadcast.getEpoch();
+    }
+
+    /**
+     * 单条数据最大长度
+     */
+    public int maxLength() {
+        return Math.min(broadcast.maxLength(), queue.maxLength());
+    }
+
+    /**
+     * 连接重建后的文件, 尚未重建完成时返回null
+     */
+    private static <T extends MappedRing> T attach(File file, Function<File, T> func) {
+        try {
+            T ring = func.apply(file);
+            return ring.isRetired() ? null : ring;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}